@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.kie.maven.gwthelper.plugin.index.GwtModuleIndex;
+import org.kie.maven.gwthelper.plugin.index.HeapGwtModuleIndex;
+import org.kie.maven.gwthelper.plugin.index.OffHeapGwtModuleIndex;
+
+/**
+ * Base class for goals that need the <b>GWT-modules</b> of the current project and the ones inherited through
+ * <b>Maven</b> dependencies.
+ */
+public abstract class AbstractGwtModuleMojo extends AbstractMojo {
+
+    protected final static String SRC_MAIN_RESOURCES = "src/main/resources".replace("/", File.separator);
+    protected final static String GWT_XML = ".gwt.xml";
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+    /**
+     * The dependency tree builder to use.
+     */
+    @Component(hint = "default")
+    protected DependencyGraphBuilder dependencyGraphBuilder;
+    @Parameter(readonly = true, defaultValue = "${project}")
+    protected MavenProject project;
+
+    /**
+     * Whether to use an <code>OffHeapGwtModuleIndex</code>, instead of an on-heap one
+     * @return
+     */
+    protected abstract boolean isOffHeapIndex();
+
+    /**
+     * Hook to stop reading dependencies, e.g. when a time budget has been exceeded
+     * @return <code>true</code> if the dependencies should not be read anymore, <code>false</code> otherwise
+     */
+    protected boolean isTimedOut() {
+        return false;
+    }
+
+    /**
+     * Retrieve the (existing) directories of the given <code>MavenProject</code> that may contain <b>GWT-modules</b>,
+     * i.e. compile source roots (including the ones added by <code>add-source</code>) and <b>src/main/resources</b>
+     * @param mavenProject
+     * @return
+     */
+    protected List<Path> getSourceRoots(MavenProject mavenProject) {
+        Set<Path> toReturn = new LinkedHashSet<>();
+        for (String compileSourceRoot : mavenProject.getCompileSourceRoots()) {
+            toReturn.add(Paths.get(compileSourceRoot).toAbsolutePath().normalize());
+        }
+        toReturn.add(new File(mavenProject.getBasedir(), SRC_MAIN_RESOURCES).toPath().toAbsolutePath().normalize());
+        return toReturn.stream()
+                .filter(Files::isDirectory)
+                .collect(Collectors.toList());
+    }
+
+    protected String getContentFromJarEntry(int index, GwtModuleIndex inheritedGwtModuleIndex) throws IOException {
+        try (JarFile jarFile = new JarFile(inheritedGwtModuleIndex.getArtifactFile(index))) {
+            return getStringContent(jarFile, jarFile.getJarEntry(inheritedGwtModuleIndex.getEntryName(index)));
+        }
+    }
+
+    protected String getStringContent(JarFile jarFile, JarEntry toRead) throws IOException {
+        InputStream input = jarFile.getInputStream(toRead);
+        StringBuilder textBuilder = new StringBuilder();
+        try (Reader reader = new BufferedReader(new InputStreamReader(input, Charset.forName(StandardCharsets.UTF_8.name())))) {
+            int c = 0;
+            while ((c = reader.read()) != -1) {
+                textBuilder.append((char) c);
+            }
+        }
+        return textBuilder.toString();
+    }
+
+    protected String getStringContent(File toRead) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(toRead.getAbsolutePath())));
+    }
+
+    /**
+     * Retrieve a <code>GwtModuleIndex</code> with the <b>GWT-modules</b> inherited through <b>Maven</b> dependencies
+     * @return
+     */
+    protected GwtModuleIndex getMavenInheritedGwtModuleIndex() throws MojoExecutionException {
+        GwtModuleIndex toReturn = isOffHeapIndex() ? new OffHeapGwtModuleIndex() : new HeapGwtModuleIndex();
+        DependencyNode dependencyNode = getDependencyNode(session, dependencyGraphBuilder, project);
+        try {
+            recursivelyReadDependencyNode(toReturn, dependencyNode);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Failed to build GwtModuleIndex ", e);
+        }
+        return toReturn;
+    }
+
+    protected void recursivelyReadDependencyNode(GwtModuleIndex toPopulate, DependencyNode toRead) throws
+            IOException {
+        if (isTimedOut()) {
+            return;
+        }
+        populateGwtModuleIndex(toPopulate, toRead.getArtifact());
+        for (DependencyNode dependencyNode : toRead.getChildren()) {
+            recursivelyReadDependencyNode(toPopulate, dependencyNode);
+        }
+    }
+
+    /**
+     * Populate a <code>GwtModuleIndex</code> with all the <b>GWT-modules</b> found in the given <code>Artifact</code>
+     * @param toPopulate
+     * @param toRead
+     * @throws IOException
+     */
+    protected void populateGwtModuleIndex(GwtModuleIndex toPopulate, Artifact toRead) throws IOException {
+        File file = toRead.getFile();
+        if (file != null && file.getName().endsWith(".jar")) {
+            // optimized solution for the jar case
+            JarFile jarFile = new JarFile(file);
+            try {
+                Enumeration<JarEntry> jarEntries = jarFile.entries();
+                while (jarEntries.hasMoreElements()) {
+                    final JarEntry jarEntry = jarEntries.nextElement();
+                    String entryName = jarEntry.getName();
+                    if (entryName.endsWith(GWT_XML)) {
+                        toPopulate.put(entryName, toRead);
+                    }
+                }
+            } finally {
+                try {
+                    jarFile.close();
+                } catch (IOException ignore) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve the <code>DependencyNode</code> of the given <code>MavenProject</code>
+     * @param session
+     * @param dependencyGraphBuilder
+     * @param project
+     * @return
+     * @throws MojoExecutionException
+     */
+    protected DependencyNode getDependencyNode(MavenSession session, DependencyGraphBuilder
+            dependencyGraphBuilder, MavenProject project) throws MojoExecutionException {
+        try {
+            ProjectBuildingRequest buildingRequest =
+                    new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+            buildingRequest.setProject(project);
+            // non-verbose mode use dependency graph component, which gives consistent results with Maven version
+            // running
+            return dependencyGraphBuilder.buildDependencyGraph(buildingRequest, null);
+        } catch (DependencyGraphBuilderException exception) {
+            throw new MojoExecutionException("Cannot build project dependency graph", exception);
+        }
+    }
+}
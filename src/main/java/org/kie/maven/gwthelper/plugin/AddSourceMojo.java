@@ -32,6 +32,8 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.StringUtils;
 
+import static org.kie.maven.gwthelper.plugin.utils.PatternUtil.isSelected;
+
 /**
  * Add more source directories to the POM.
  */
@@ -137,13 +139,7 @@ public class AddSourceMojo  extends AbstractMojo {
                     .filter(path -> path.toString().endsWith(".gwt.xml")).findFirst();
             if (first.isPresent()) {
                 String fileName = first.get().getFileName().toString();
-                if (StringUtils.isNotEmpty(includes)) {
-                    toReturn = matchPattern(fileName, includes);
-                } else if (StringUtils.isNotEmpty(excludes)) {
-                    toReturn = !matchPattern(fileName, excludes);
-                } else {
-                    toReturn = true;
-                }
+                toReturn = isSelected(fileName, includes, excludes);
             }
         } catch (IOException e) {
             String errorMessage = StringUtils.isEmpty(e.getMessage()) ? e.getClass().getName() : e.getMessage();
@@ -162,17 +158,6 @@ public class AddSourceMojo  extends AbstractMojo {
         return toCheck.isDirectory() && toCheck.list() != null && Arrays.asList(toCheck.list()).contains("pom.xml");
     }
 
-    /**
-     * Method to check if the given String contains one of the comma-separated pattern.
-     * Matching is done with String.contains()
-     * @param toCheck
-     * @param pattern
-     * @return <code>true</code> if the <b>toCheck</b> String contains the <b>pattern</b> one, <code>false</code> otherwise
-     */
-    private boolean matchPattern(String toCheck, String pattern) {
-        return Arrays.stream(pattern.split(",")).anyMatch(toCheck::contains);
-    }
-
     /**
      * Method to check if the given file is an <b>existing, readable, directory</b>
      * @param toCheck
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.StringUtils;
+import org.kie.maven.gwthelper.plugin.index.GwtModuleIndex;
+
+import static org.kie.maven.gwthelper.plugin.utils.ParserUtil.getTagAttributes;
+
+/**
+ * Map a list of changed paths to the <b>GWT</b> modules that own them and print out the
+ * <b>entry</b> modules (i.e. the ones declaring an <code>entry-point</code>) that inherit them, directly or transitively.
+ */
+@Mojo(name = "impact", defaultPhase = LifecyclePhase.PROCESS_SOURCES, threadSafe = true)
+public class ImpactMojo extends AbstractGwtModuleMojo {
+
+    private final static String SRC_TEST = "src/test".replace("/", File.separator);
+    private final static List<String> CONVENTIONAL_SOURCE_ROOTS = Arrays.asList("src/main/java/", "src/main/resources/");
+    // tag and attribute naming classes loaded by the GWT compiler
+    private final static List<String[]> CLASS_ATTRIBUTES = Arrays.asList(new String[]{"generate-with", "class"},
+                                                                        new String[]{"define-linker", "class"},
+                                                                        new String[]{"replace-with", "class"},
+                                                                        new String[]{"property-provider", "generator"});
+
+    /**
+     * Comma-separated list of changed paths (e.g. the output of <code>git diff --name-only</code>)
+     */
+    @Parameter(property = "impact.changedPaths", required = false)
+    private String changedPaths;
+
+    /**
+     * File containing the changed paths, one per line (e.g. <code>git diff --name-only &gt; changes.txt</code>).
+     * If relative, it is resolved against <b>changedPathsBaseDir</b>
+     */
+    @Parameter(property = "impact.changedPathsFile", required = false)
+    private String changedPathsFile;
+
+    /**
+     * Directory against which relative changed paths are resolved
+     */
+    @Parameter(property = "impact.changedPathsBaseDir", defaultValue = "${session.executionRootDirectory}")
+    private File changedPathsBaseDir;
+
+    /**
+     * File where to write the affected entry modules, one per line
+     */
+    @Parameter(property = "impact.outputFile", required = false)
+    private File outputFile;
+
+    /**
+     * Whether to keep the index of the modules inherited through dependencies, and the inheritance and owned path
+     * edges of all the modules, off-heap, to reduce the heap used when scanning very large classpaths
+     */
+    @Parameter(property = "impact.offHeapIndex", defaultValue = "false")
+    private boolean offHeapIndex;
+
+    /**
+     * Reactor projects the current one depends on, populated while reading the dependency tree
+     */
+    private final Map<String, MavenProject> reactorDependencies = new LinkedHashMap<>();
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if ("pom".equals(project.getPackaging())) {
+            getLog().info("Skipping pom project");
+            return;
+        }
+        if (StringUtils.isEmpty(changedPaths) && StringUtils.isEmpty(changedPathsFile)) {
+            throw new MojoExecutionException("One of 'changedPaths' or 'changedPathsFile' must be provided");
+        }
+        List<Path> changed = getChangedPaths();
+        // reactor dependencies are read from their sources, all the others from their jars
+        GwtModuleIndex inheritedGwtModuleIndex = getMavenInheritedGwtModuleIndex();
+        Set<String> entryModules = new HashSet<>();
+        Set<String> rebuildAllReasons = new LinkedHashSet<>();
+        List<Path> sourceRoots = new ArrayList<>(getSourceRoots(project));
+        readLocalGwtModules(sourceRoots, inheritedGwtModuleIndex, entryModules);
+        for (MavenProject reactorDependency : reactorDependencies.values()) {
+            List<Path> reactorSourceRoots = getSourceRoots(reactorDependency);
+            sourceRoots.addAll(reactorSourceRoots);
+            // entry modules of dependencies are not compiled by the current project
+            readLocalGwtModules(reactorSourceRoots, inheritedGwtModuleIndex, new HashSet<>());
+        }
+        readIndexedGwtModules(inheritedGwtModuleIndex, rebuildAllReasons);
+        Set<String> changedModules = new TreeSet<>();
+        for (Path changedPath : changed) {
+            Set<String> owningModules = getOwningGwtModules(changedPath, sourceRoots, inheritedGwtModuleIndex, rebuildAllReasons);
+            owningModules.forEach(owningModule -> getLog().debug(changedPath + " owned by " + owningModule));
+            changedModules.addAll(owningModules);
+        }
+        Set<String> toRebuild;
+        if (rebuildAllReasons.isEmpty()) {
+            toRebuild = getAffectedGwtModules(changedModules, inheritedGwtModuleIndex).stream()
+                    .filter(entryModules::contains)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        } else {
+            rebuildAllReasons.forEach(s -> getLog().warn("Rebuilding all entry modules: " + s));
+            toRebuild = new TreeSet<>(entryModules);
+        }
+        getLog().info("*********");
+        getLog().info("Changed modules: " + changedModules.size());
+        changedModules.forEach(s -> getLog().info("\tchanged: " + s));
+        getLog().info("Entry modules to rebuild: " + toRebuild.size());
+        toRebuild.forEach(s -> getLog().info("\trebuild: " + s));
+        if (outputFile != null) {
+            try {
+                Path outputPath = outputFile.toPath().toAbsolutePath();
+                Files.createDirectories(outputPath.getParent());
+                Files.write(outputPath, toRebuild, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to write " + outputFile.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    @Override
+    protected boolean isOffHeapIndex() {
+        return offHeapIndex;
+    }
+
+    /**
+     * Reactor projects are not read from their (possibly stale, or not yet built) artifact but collected,
+     * to be read from their sources
+     * @param toPopulate
+     * @param toRead
+     * @throws IOException
+     */
+    @Override
+    protected void populateGwtModuleIndex(GwtModuleIndex toPopulate, Artifact toRead) throws IOException {
+        String key = toRead.getGroupId() + ":" + toRead.getArtifactId() + ":" + toRead.getVersion();
+        if (session.getProjects() != null) {
+            for (MavenProject reactorProject : session.getProjects()) {
+                if (key.equals(reactorProject.getGroupId() + ":" + reactorProject.getArtifactId() + ":" + reactorProject.getVersion())) {
+                    if (reactorProject != project) {
+                        reactorDependencies.put(key, reactorProject);
+                    }
+                    return;
+                }
+            }
+        }
+        super.populateGwtModuleIndex(toPopulate, toRead);
+    }
+
+    /**
+     * Read all the <b>GWT-modules</b> found inside the given roots
+     * @param sourceRoots
+     * @param gwtModuleIndex
+     * @param entryModules
+     * @throws MojoExecutionException
+     */
+    protected void readLocalGwtModules(List<Path> sourceRoots, GwtModuleIndex gwtModuleIndex, Set<String> entryModules) throws MojoExecutionException {
+        for (Path sourceRoot : sourceRoots) {
+            List<Path> descriptors;
+            try (Stream<Path> paths = Files.walk(sourceRoot)) {
+                descriptors = paths.filter(Files::isRegularFile)
+                        .filter(path -> path.getFileName().toString().endsWith(GWT_XML))
+                        .collect(Collectors.toList());
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to read path " + sourceRoot, e);
+            }
+            for (Path descriptor : descriptors) {
+                String descriptorPath = toSlashPath(sourceRoot.relativize(descriptor));
+                String moduleName = GwtModuleIndex.getModuleName(descriptorPath);
+                if (gwtModuleIndex.hasOwnedPaths(moduleName)) {
+                    continue;
+                }
+                try {
+                    String content = getStringContent(descriptor.toFile());
+                    readGwtModule(moduleName, descriptorPath, content, gwtModuleIndex, entryModules);
+                } catch (Exception e) {
+                    throw new MojoExecutionException("Exception " + e.getClass().getName() + " while reading " + descriptor, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read all the <b>GWT-modules</b> of the given <code>GwtModuleIndex</code> not already read from sources.
+     * Since a module that cannot be read may hide inheritance edges, any failure requires a full rebuild
+     * @param inheritedGwtModuleIndex
+     * @param rebuildAllReasons
+     */
+    protected void readIndexedGwtModules(GwtModuleIndex inheritedGwtModuleIndex, Set<String> rebuildAllReasons) {
+        // modules of the same artifact are indexed consecutively, so each jar is opened only once
+        File currentFile = null;
+        JarFile currentJarFile = null;
+        try {
+            for (int index = 0; index < inheritedGwtModuleIndex.size(); index++) {
+                String entryName = inheritedGwtModuleIndex.getEntryName(index);
+                String moduleName = GwtModuleIndex.getModuleName(entryName);
+                if (inheritedGwtModuleIndex.hasOwnedPaths(moduleName)) {
+                    continue;
+                }
+                File artifactFile = inheritedGwtModuleIndex.getArtifactFile(index);
+                try {
+                    if (!artifactFile.equals(currentFile)) {
+                        closeQuietly(currentJarFile);
+                        currentJarFile = null;
+                        currentFile = artifactFile;
+                        currentJarFile = new JarFile(artifactFile);
+                    }
+                    if (currentJarFile == null) {
+                        throw new IOException("Failed to open " + artifactFile);
+                    }
+                    String content = getStringContent(currentJarFile, currentJarFile.getJarEntry(entryName));
+                    readGwtModule(moduleName, entryName, content, inheritedGwtModuleIndex, new HashSet<>());
+                } catch (Exception e) {
+                    rebuildAllReasons.add("exception " + e.getClass().getName() + " while reading " + entryName + " from " + artifactFile);
+                }
+            }
+        } finally {
+            closeQuietly(currentJarFile);
+        }
+    }
+
+    /**
+     * Read the given <b>GWT-module</b> descriptor, populating the inheritance edges and the paths owned by the module
+     * (descriptor, <code>source</code>, <code>super-source</code> and <code>public</code> paths, and the sources of
+     * the generator, linker and replacement classes it declares) of the given <code>GwtModuleIndex</code>, and the
+     * <code>Set</code> of modules declaring an <code>entry-point</code>
+     * @param moduleName
+     * @param descriptorPath the '/'-separated path of the descriptor, relative to its root
+     * @param content
+     * @param gwtModuleIndex
+     * @param entryModules
+     * @throws Exception
+     */
+    protected void readGwtModule(String moduleName, String descriptorPath, String content, GwtModuleIndex gwtModuleIndex, Set<String> entryModules) throws Exception {
+        for (String inheritDeclaration : getTagAttributes(content, "inherits", "name")) {
+            gwtModuleIndex.putInheritance(inheritDeclaration, moduleName);
+        }
+        if (!getTagAttributes(content, "entry-point", "class").isEmpty()) {
+            entryModules.add(moduleName);
+        }
+        String modulePackage = descriptorPath.contains("/") ? descriptorPath.substring(0, descriptorPath.lastIndexOf('/')) : "";
+        List<String> sourcePaths = getTagAttributes(content, "source", "path");
+        if (sourcePaths.isEmpty()) {
+            // GWT default
+            sourcePaths.add("client");
+        }
+        sourcePaths.addAll(getTagAttributes(content, "super-source", "path"));
+        List<String> publicPaths = getTagAttributes(content, "public", "path");
+        if (publicPaths.isEmpty()) {
+            // GWT default
+            publicPaths.add("public");
+        }
+        sourcePaths.addAll(publicPaths);
+        gwtModuleIndex.putOwnedPath(moduleName, descriptorPath);
+        for (String sourcePath : sourcePaths) {
+            String relativePath = sourcePath.replace("\\", "/").replaceAll("^[./]+|/+$", "");
+            if (modulePackage.isEmpty()) {
+                gwtModuleIndex.putOwnedPath(moduleName, relativePath);
+            } else {
+                gwtModuleIndex.putOwnedPath(moduleName, relativePath.isEmpty() ? modulePackage : modulePackage + "/" + relativePath);
+            }
+        }
+        // classes loaded by the GWT compiler, possibly outside source paths
+        for (String[] classAttribute : CLASS_ATTRIBUTES) {
+            for (String className : getTagAttributes(content, classAttribute[0], classAttribute[1])) {
+                String classSourcePath = getClassSourcePath(className);
+                if (classSourcePath != null) {
+                    gwtModuleIndex.putOwnedPath(moduleName, classSourcePath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve the '/'-separated path of the source file of the given class, i.e. of its top-level class
+     * (e.g. <b>org/kie/Outer.java</b> for <b>org.kie.Outer.Inner</b> or <b>org.kie.Outer$Inner</b>)
+     * @param className
+     * @return the source path, or <code>null</code> if the given name is empty
+     */
+    protected String getClassSourcePath(String className) {
+        String toRead = className.trim();
+        if (toRead.contains("$")) {
+            toRead = toRead.substring(0, toRead.indexOf('$'));
+        }
+        if (toRead.isEmpty()) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : toRead.split("\\.")) {
+            segments.add(segment);
+            if (!segment.isEmpty() && Character.isUpperCase(segment.charAt(0))) {
+                // nested classes share the source file of the top-level one
+                break;
+            }
+        }
+        return String.join("/", segments) + ".java";
+    }
+
+    /**
+     * Retrieve the <b>GWT-modules</b> that own the given path, i.e. the ones whose descriptor, source, super-source or
+     * public paths contain it.
+     * Paths outside any known source root are matched, if possible, after their conventional
+     * <b>src/main/java</b>/<b>src/main/resources</b> segment, to cover dependencies read from jars.
+     * An unowned descriptor (e.g. a deleted or renamed one) is mapped to the module it declared, so that the modules
+     * still inheriting it are rebuilt.
+     * An unowned path inside the current project (or one of its reactor dependencies) but outside its source roots,
+     * or a <b>pom.xml</b> of a parent directory, may affect any module, so it is added to the <b>rebuildAllReasons</b>
+     * @param changedPath
+     * @param sourceRoots
+     * @param gwtModuleIndex
+     * @param rebuildAllReasons
+     * @return
+     */
+    protected Set<String> getOwningGwtModules(Path changedPath, List<Path> sourceRoots, GwtModuleIndex gwtModuleIndex, Set<String> rebuildAllReasons) {
+        Set<String> toReturn = new TreeSet<>();
+        List<String> relativePaths = new ArrayList<>();
+        boolean inSourceRoot = false;
+        for (Path sourceRoot : sourceRoots) {
+            if (changedPath.startsWith(sourceRoot) && !changedPath.equals(sourceRoot)) {
+                inSourceRoot = true;
+                relativePaths.add(toSlashPath(sourceRoot.relativize(changedPath)));
+            }
+        }
+        if (!inSourceRoot) {
+            String slashPath = toSlashPath(changedPath);
+            for (String conventionalSourceRoot : CONVENTIONAL_SOURCE_ROOTS) {
+                int index = slashPath.lastIndexOf("/" + conventionalSourceRoot);
+                if (index >= 0) {
+                    relativePaths.add(slashPath.substring(index + conventionalSourceRoot.length() + 1));
+                }
+            }
+        }
+        for (String relativePath : relativePaths) {
+            toReturn.addAll(gwtModuleIndex.getOwningModules(relativePath));
+        }
+        if (toReturn.isEmpty()) {
+            relativePaths.stream()
+                    .filter(relativePath -> relativePath.endsWith(GWT_XML))
+                    .forEach(relativePath -> toReturn.add(GwtModuleIndex.getModuleName(relativePath)));
+        }
+        if (!toReturn.isEmpty()) {
+            return toReturn;
+        }
+        if (inSourceRoot) {
+            getLog().info(changedPath + " is not inside any GWT source/public path");
+        } else if (isTestPath(changedPath)) {
+            getLog().debug(changedPath + " is a test path");
+        } else if (isProjectPath(changedPath)) {
+            rebuildAllReasons.add(changedPath + " is not owned by any GWT module");
+        } else if (isParentPom(changedPath)) {
+            rebuildAllReasons.add("parent " + changedPath + " changed");
+        } else {
+            getLog().debug(changedPath + " is outside current project and its reactor dependencies");
+        }
+        return toReturn;
+    }
+
+    /**
+     * Walk the <i>reverse</i> inheritance graph starting from the given modules
+     * @param changedModules
+     * @param gwtModuleIndex
+     * @return the given modules and all the ones that inherit them, directly or transitively
+     */
+    protected Set<String> getAffectedGwtModules(Set<String> changedModules, GwtModuleIndex gwtModuleIndex) {
+        Set<String> toReturn = new HashSet<>(changedModules);
+        Deque<String> toVisit = new ArrayDeque<>(changedModules);
+        while (!toVisit.isEmpty()) {
+            String current = toVisit.pop();
+            for (String inheriting : gwtModuleIndex.getInheritingModules(current)) {
+                if (toReturn.add(inheriting)) {
+                    toVisit.push(inheriting);
+                }
+            }
+        }
+        return toReturn;
+    }
+
+    protected List<Path> getChangedPaths() throws MojoExecutionException {
+        Path baseDir = (changedPathsBaseDir != null ? changedPathsBaseDir : project.getBasedir()).toPath();
+        List<String> rawPaths = new ArrayList<>();
+        if (StringUtils.isNotEmpty(changedPaths)) {
+            rawPaths.addAll(Arrays.asList(changedPaths.split(",")));
+        }
+        if (StringUtils.isNotEmpty(changedPathsFile)) {
+            Path changedPathsFilePath = baseDir.resolve(changedPathsFile);
+            try {
+                rawPaths.addAll(Files.readAllLines(changedPathsFilePath, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to read " + changedPathsFilePath.toAbsolutePath(), e);
+            }
+        }
+        return rawPaths.stream()
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(rawPath -> baseDir.resolve(rawPath).toAbsolutePath().normalize())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private void closeQuietly(JarFile toClose) {
+        if (toClose != null) {
+            try {
+                toClose.close();
+            } catch (IOException ignore) {
+                // ignore
+            }
+        }
+    }
+
+    private boolean isParentPom(Path toCheck) {
+        return toCheck.getParent() != null && "pom.xml".equals(toCheck.getFileName().toString())
+                && project.getBasedir().toPath().toAbsolutePath().normalize().startsWith(toCheck.getParent());
+    }
+
+    private boolean isProjectPath(Path toCheck) {
+        return Stream.concat(Stream.of(project), reactorDependencies.values().stream())
+                .anyMatch(mavenProject -> toCheck.startsWith(mavenProject.getBasedir().toPath().toAbsolutePath().normalize()));
+    }
+
+    private boolean isTestPath(Path toCheck) {
+        return Stream.concat(Stream.of(project), reactorDependencies.values().stream())
+                .flatMap(mavenProject -> Stream.concat(mavenProject.getTestCompileSourceRoots().stream(),
+                                                       Stream.of(new File(mavenProject.getBasedir(), SRC_TEST).getAbsolutePath())))
+                .anyMatch(testRoot -> toCheck.startsWith(Paths.get(testRoot).toAbsolutePath().normalize()));
+    }
+
+    private String toSlashPath(Path path) {
+        return path.toString().replace(File.separator, "/");
+    }
+}
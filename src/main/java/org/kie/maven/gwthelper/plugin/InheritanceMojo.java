@@ -15,44 +15,27 @@
  */
 package org.kie.maven.gwthelper.plugin;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 import javax.xml.parsers.ParserConfigurationException;
 
-import org.apache.maven.artifact.Artifact;
-import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
-import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.DefaultProjectBuildingRequest;
-import org.apache.maven.project.MavenProject;
-import org.apache.maven.project.ProjectBuildingRequest;
-import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
-import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
-import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.codehaus.plexus.util.StringUtils;
+import org.kie.maven.gwthelper.plugin.index.GwtModuleIndex;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -61,23 +44,14 @@ import org.xml.sax.SAXException;
 import static org.kie.maven.gwthelper.plugin.utils.ParserUtil.createEmptyDocument;
 import static org.kie.maven.gwthelper.plugin.utils.ParserUtil.getString;
 import static org.kie.maven.gwthelper.plugin.utils.ParserUtil.getTagAttributes;
+import static org.kie.maven.gwthelper.plugin.utils.PatternUtil.isSelected;
 
 /**
  * Check and print out the <b>GWT</b> inheritance tree.
  */
 @Mojo(name = "inheritance", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true)
-public class InheritanceMojo extends AbstractMojo {
+public class InheritanceMojo extends AbstractGwtModuleMojo {
 
-    private final static String SRC_MAIN_RESOURCES = "src/main/resources".replace("/", File.separator);
-    @Parameter(defaultValue = "${session}", readonly = true, required = true)
-    protected MavenSession session;
-    /**
-     * The dependency tree builder to use.
-     */
-    @Component(hint = "default")
-    protected DependencyGraphBuilder dependencyGraphBuilder;
-    @Parameter(readonly = true, defaultValue = "${project}")
-    private MavenProject project;
     /**
      * Whether to fail the build if an inheritance warning is found.
      */
@@ -102,12 +76,64 @@ public class InheritanceMojo extends AbstractMojo {
     @Parameter(property = "fileOutput", defaultValue = "false")
     private boolean fileOutput;
 
+    /**
+     * Comma-separated list of patterns to match to include modules.
+     * Does not use regex, but simple string
+     */
+    @Parameter(property = "inheritance.includes", required = false)
+    private String includes;
+
+    /**
+     * Comma-separated pattern to match to exclude modules.
+     * Does not use regex, but simple string
+     */
+    @Parameter(property = "inheritance.excludes", required = false)
+    private String excludes;
+
+    /**
+     * Whether to analyze only the modules of the current project, skipping the ones inherited through dependencies
+     */
+    @Parameter(property = "inheritance.localModulesOnly", defaultValue = "false")
+    private boolean localModulesOnly;
+
+    /**
+     * Whether to stop the analysis and fail the build as soon as the first missing inherit is found.
+     * Other warnings (e.g. unreadable modules) neither stop the analysis nor fail the build, unless <b>failOnWarning</b> is set
+     */
+    @Parameter(property = "inheritance.failFast", defaultValue = "false")
+    private boolean failFast;
+
+    /**
+     * Time budget, in seconds, after which the analysis is stopped and partial results are reported (0 means no limit)
+     */
+    @Parameter(property = "inheritance.timeout", defaultValue = "0")
+    private int timeout;
+
+    /**
+     * Whether to keep the index of the modules inherited through dependencies off-heap, to reduce the heap used
+     * when scanning very large classpaths
+     */
+    @Parameter(property = "inheritance.offHeapIndex", defaultValue = "false")
+    private boolean offHeapIndex;
+
+    private long deadline;
+
+    private boolean timedOut;
+
+    private boolean indexTimedOut;
+
+    private int analyzedModules;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         if ("pom".equals(project.getPackaging())) {
             getLog().info("Skipping pom project");
             return;
         }
+        if (StringUtils.isNotEmpty(includes) && StringUtils.isNotEmpty(excludes)) {
+            throw new MojoExecutionException("Only one of 'includes' or 'excludes' can be provided");
+        }
+        deadline = timeout > 0 ? System.currentTimeMillis() + timeout * 1000L : 0;
         Map<String, Set<String>> missingDeclarationMap = new HashMap<>();
         boolean warning = false;
         if (fileOutput) {
@@ -138,7 +164,12 @@ public class InheritanceMojo extends AbstractMojo {
                 value.forEach(s -> getLog().warn("\tmissing: " + s));
             });
         }
-        if (warning && failOnWarning) {
+        if (indexTimedOut) {
+            getLog().warn("Time budget of " + timeout + " seconds exceeded while indexing dependencies: indexing did not complete and no module has been checked");
+        } else if (timedOut) {
+            getLog().warn("Time budget of " + timeout + " seconds exceeded: inheritance analysis is partial, " + analyzedModules + " modules analyzed");
+        }
+        if ((warning && failOnWarning) || (failFast && !missingDeclarationMap.isEmpty())) {
             throw new MojoExecutionException("Inheritance problems found");
         }
     }
@@ -148,12 +179,20 @@ public class InheritanceMojo extends AbstractMojo {
      * @throws MojoExecutionException
      */
     protected boolean checkInheritance(Map<String, Set<String>> missingDeclarationMap) throws MojoExecutionException {
-        Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap = getMavenInheritedGwtModuleArtifactMap();
+        GwtModuleIndex inheritedGwtModuleIndex = getMavenInheritedGwtModuleIndex();
+        indexTimedOut = isTimedOut();
         Set<File> currentModuleGwtModuleList = currentModuleGwtModules();
         boolean toReturn = false;
         for (File gwtModuleFile : currentModuleGwtModuleList) {
+            if (isStopRequested(missingDeclarationMap)) {
+                return toReturn;
+            }
+            if (!isSelectedModule(getModuleName(gwtModuleFile))) {
+                continue;
+            }
+            analyzedModules++;
             try {
-                toReturn |= printInheritance(gwtModuleFile, inheritedGwtModuleArtifactMap, missingDeclarationMap);
+                toReturn |= printInheritance(gwtModuleFile, inheritedGwtModuleIndex, missingDeclarationMap);
             } catch (Exception e) {
                 String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of File " + gwtModuleFile.getName();
                 if (verbose) {
@@ -164,11 +203,21 @@ public class InheritanceMojo extends AbstractMojo {
                 toReturn = true;
             }
         }
-        for (JarEntry jarEntry : inheritedGwtModuleArtifactMap.keySet()) {
+        if (localModulesOnly) {
+            return toReturn;
+        }
+        for (int index = 0; index < inheritedGwtModuleIndex.size(); index++) {
+            if (isStopRequested(missingDeclarationMap)) {
+                return toReturn;
+            }
+            if (!isSelectedModule(getModuleName(inheritedGwtModuleIndex.getEntryName(index)))) {
+                continue;
+            }
+            analyzedModules++;
             try {
-                toReturn |= printInheritance(jarEntry, inheritedGwtModuleArtifactMap, missingDeclarationMap);
+                toReturn |= printInheritance(index, inheritedGwtModuleIndex, missingDeclarationMap);
             } catch (Exception e) {
-                String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of JarEntry " + jarEntry.getName();
+                String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of JarEntry " + inheritedGwtModuleIndex.getEntryName(index);
                 if (verbose) {
                     getLog().error(errorMessage, e);
                 } else {
@@ -185,12 +234,20 @@ public class InheritanceMojo extends AbstractMojo {
      * @throws MojoExecutionException
      */
     protected boolean checkInheritance(Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws MojoExecutionException {
-        Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap = getMavenInheritedGwtModuleArtifactMap();
+        GwtModuleIndex inheritedGwtModuleIndex = getMavenInheritedGwtModuleIndex();
+        indexTimedOut = isTimedOut();
         Set<File> currentModuleGwtModuleList = currentModuleGwtModules();
         boolean toReturn = false;
         for (File gwtModuleFile : currentModuleGwtModuleList) {
+            if (isStopRequested(missingDeclarationMap)) {
+                return toReturn;
+            }
+            if (!isSelectedModule(getModuleName(gwtModuleFile))) {
+                continue;
+            }
+            analyzedModules++;
             try {
-                toReturn |= printInheritance(gwtModuleFile, inheritedGwtModuleArtifactMap, missingDeclarationMap, document, rootElement);
+                toReturn |= printInheritance(gwtModuleFile, inheritedGwtModuleIndex, missingDeclarationMap, document, rootElement);
             } catch (Exception e) {
                 String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of File " + gwtModuleFile.getName();
                 if (verbose) {
@@ -201,11 +258,21 @@ public class InheritanceMojo extends AbstractMojo {
                 toReturn = true;
             }
         }
-        for (JarEntry jarEntry : inheritedGwtModuleArtifactMap.keySet()) {
+        if (localModulesOnly) {
+            return toReturn;
+        }
+        for (int index = 0; index < inheritedGwtModuleIndex.size(); index++) {
+            if (isStopRequested(missingDeclarationMap)) {
+                return toReturn;
+            }
+            if (!isSelectedModule(getModuleName(inheritedGwtModuleIndex.getEntryName(index)))) {
+                continue;
+            }
+            analyzedModules++;
             try {
-                toReturn |= printInheritance(jarEntry, inheritedGwtModuleArtifactMap, missingDeclarationMap, document, rootElement);
+                toReturn |= printInheritance(index, inheritedGwtModuleIndex, missingDeclarationMap, document, rootElement);
             } catch (Exception e) {
-                String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of JarEntry " + jarEntry.getName();
+                String errorMessage = "Exception " + e.getClass().getName() + " while printing inheritance of JarEntry " + inheritedGwtModuleIndex.getEntryName(index);
                 if (verbose) {
                     getLog().error(errorMessage, e);
                 } else {
@@ -217,77 +284,122 @@ public class InheritanceMojo extends AbstractMojo {
         return toReturn;
     }
 
-    protected boolean printInheritance(File file, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
+    protected boolean printInheritance(File file, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
         String content = getStringContent(file);
-        return printInheritance(content, file.getName().replace(".gwt.xml", "").replace("/", "."), inheritedGwtModuleArtifactMap, missingDeclarationMap);
+        return printInheritance(content, getModuleName(file), inheritedGwtModuleIndex, missingDeclarationMap);
     }
 
-    protected boolean printInheritance(File file, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
+    protected boolean printInheritance(File file, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
         String content = getStringContent(file);
-        return printInheritance(content, file.getName().replace(".gwt.xml", "").replace("/", "."), inheritedGwtModuleArtifactMap, missingDeclarationMap, document, rootElement);
+        return printInheritance(content, getModuleName(file), inheritedGwtModuleIndex, missingDeclarationMap, document, rootElement);
     }
 
-    protected boolean printInheritance(JarEntry jarEntry, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
-        String content = getContentFromJarEntry(jarEntry, inheritedGwtModuleArtifactMap);
-        return printInheritance(content, jarEntry.getName().replace(".gwt.xml", "").replace("/", "."), inheritedGwtModuleArtifactMap, missingDeclarationMap);
+    protected boolean printInheritance(int index, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
+        String content = getContentFromJarEntry(index, inheritedGwtModuleIndex);
+        return printInheritance(content, getModuleName(inheritedGwtModuleIndex.getEntryName(index)), inheritedGwtModuleIndex, missingDeclarationMap);
     }
 
-    protected boolean printInheritance(JarEntry jarEntry, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
-        String content = getContentFromJarEntry(jarEntry, inheritedGwtModuleArtifactMap);
-        return printInheritance(content, jarEntry.getName().replace(".gwt.xml", "").replace("/", "."), inheritedGwtModuleArtifactMap, missingDeclarationMap, document, rootElement);
+    protected boolean printInheritance(int index, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
+        String content = getContentFromJarEntry(index, inheritedGwtModuleIndex);
+        return printInheritance(content, getModuleName(inheritedGwtModuleIndex.getEntryName(index)), inheritedGwtModuleIndex, missingDeclarationMap, document, rootElement);
     }
 
-    protected boolean printInheritance(String content, String moduleName, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
+    protected boolean printInheritance(String content, String moduleName, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap) throws IOException, ParserConfigurationException, SAXException {
         List<String> inheritDeclarations = getInheritDeclarations(content);
         commonPrintInheritanceInit(moduleName);
         boolean toReturn = false;
         for (String inheritDeclaration : inheritDeclarations) {
-            final Optional<String> mappedArtifactInfo = getMappedArtifactInfo(inheritDeclaration, inheritedGwtModuleArtifactMap);
-            toReturn = commonPrintInherit(inheritDeclaration, moduleName, mappedArtifactInfo, missingDeclarationMap);
+            final Optional<String> mappedArtifactInfo = getMappedArtifactInfo(inheritDeclaration, inheritedGwtModuleIndex);
+            toReturn |= commonPrintInherit(inheritDeclaration, moduleName, mappedArtifactInfo, missingDeclarationMap);
+            if (toReturn && failFast) {
+                break;
+            }
         }
         return toReturn;
     }
 
-    protected boolean printInheritance(String content, String moduleName, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
+    protected boolean printInheritance(String content, String moduleName, GwtModuleIndex inheritedGwtModuleIndex, Map<String, Set<String>> missingDeclarationMap, Document document, Element rootElement) throws IOException, ParserConfigurationException, SAXException {
         List<String> inheritDeclarations = getInheritDeclarations(content);
         commonPrintInheritanceInit(moduleName);
         boolean toReturn = false;
         Element moduleElement = initModuleNode(moduleName, document, rootElement);
         for (String inheritDeclaration : inheritDeclarations) {
-            final Optional<String> mappedArtifactInfo = getMappedArtifactInfo(inheritDeclaration, inheritedGwtModuleArtifactMap);
-            toReturn = commonPrintInherit(inheritDeclaration, moduleName, mappedArtifactInfo, missingDeclarationMap);
+            final Optional<String> mappedArtifactInfo = getMappedArtifactInfo(inheritDeclaration, inheritedGwtModuleIndex);
+            toReturn |= commonPrintInherit(inheritDeclaration, moduleName, mappedArtifactInfo, missingDeclarationMap);
             if (mappedArtifactInfo.isPresent()) {
                 addInheritanceToElement(moduleElement, document, inheritDeclaration, mappedArtifactInfo.get());
             } else {
                 addMissingInheritanceToElement(moduleElement, document, inheritDeclaration);
             }
+            if (toReturn && failFast) {
+                break;
+            }
         }
         return toReturn;
     }
 
+    /**
+     * Method to check if the analysis has to be stopped, i.e. a missing inherit has been found in <b>failFast</b> mode
+     * or the <b>timeout</b> has been exceeded
+     * @param missingDeclarationMap
+     * @return <code>true</code> if the analysis has to be stopped, <code>false</code> otherwise
+     */
+    protected boolean isStopRequested(Map<String, Set<String>> missingDeclarationMap) {
+        return (failFast && !missingDeclarationMap.isEmpty()) || isTimedOut();
+    }
+
+    /**
+     * @return <code>true</code> if the <b>timeout</b> has been exceeded, <code>false</code> otherwise
+     */
+    @Override
+    protected boolean isTimedOut() {
+        if (!timedOut && deadline > 0 && System.currentTimeMillis() > deadline) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    @Override
+    protected boolean isOffHeapIndex() {
+        return offHeapIndex;
+    }
+
+    /**
+     * Retrieve the fully qualified name of the given local <b>GWT-module</b>, i.e. its path relative to the
+     * source root containing it
+     * @param file
+     * @return
+     */
+    protected String getModuleName(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        for (Path sourceRoot : getSourceRoots(project)) {
+            if (path.startsWith(sourceRoot)) {
+                return getModuleName(sourceRoot.relativize(path).toString().replace(File.separator, "/"));
+            }
+        }
+        return file.getName().replace(".gwt.xml", "");
+    }
+
+    protected String getModuleName(String entryName) {
+        return GwtModuleIndex.getModuleName(entryName);
+    }
+
+    /**
+     * Method to check if the given module matches the <b>includes/excludes</b> patterns
+     * @param moduleName
+     * @return <code>true</code> if the module has to be analyzed, <code>false</code> otherwise
+     */
+    protected boolean isSelectedModule(String moduleName) {
+        return isSelected(moduleName, includes, excludes);
+    }
+
     protected void commonPrintInheritanceInit(String moduleName) {
         getLog().info("*********");
         getLog().info("Module: " + moduleName);
     }
 
-    protected Optional<String> getMappedArtifactInfo(String inheritDeclaration, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap) {
-        return inheritedGwtModuleArtifactMap.keySet().stream()
-                .filter(jarEntry -> {
-                    String jarEntryName = jarEntry.getName().replace(".gwt.xml", "").replace("/", ".");
-                    return jarEntryName.endsWith(inheritDeclaration);
-                })
-                .findFirst()
-                .map(jarEntry -> {
-                         final Artifact artifact = inheritedGwtModuleArtifactMap.get(jarEntry);
-                         StringBuilder optional = new StringBuilder();
-                         optional.append(artifact.getGroupId());
-                         optional.append(":");
-                         optional.append(artifact.getArtifactId());
-                         optional.append(":");
-                         optional.append(artifact.getVersion());
-                         return optional.toString();
-                     }
-                );
+    protected Optional<String> getMappedArtifactInfo(String inheritDeclaration, GwtModuleIndex inheritedGwtModuleIndex) {
+        return inheritedGwtModuleIndex.getArtifactInfo(inheritDeclaration);
     }
 
     protected boolean commonPrintInherit(String inheritDeclaration, String moduleName, Optional<String> mappedArtifactInfo, Map<String, Set<String>> missingDeclarationMap) {
@@ -311,11 +423,6 @@ public class InheritanceMojo extends AbstractMojo {
         return toReturn;
     }
 
-    protected String getContentFromJarEntry(JarEntry jarEntry, Map<JarEntry, Artifact> inheritedGwtModuleArtifactMap) throws IOException {
-        JarFile jarFile = new JarFile(inheritedGwtModuleArtifactMap.get(jarEntry).getFile());
-        return getStringContent(jarFile, jarEntry);
-    }
-
     protected Element initModuleNode(String moduleName, Document document, Element rootElement) {
         Element toReturn = document.createElement("module");
         Node moduleNode = document.createElement("name");
@@ -342,22 +449,6 @@ public class InheritanceMojo extends AbstractMojo {
         container.appendChild(inheritNode);
     }
 
-    protected String getStringContent(JarFile jarFile, JarEntry toRead) throws IOException {
-        InputStream input = jarFile.getInputStream(toRead);
-        StringBuilder textBuilder = new StringBuilder();
-        try (Reader reader = new BufferedReader(new InputStreamReader(input, Charset.forName(StandardCharsets.UTF_8.name())))) {
-            int c = 0;
-            while ((c = reader.read()) != -1) {
-                textBuilder.append((char) c);
-            }
-        }
-        return textBuilder.toString();
-    }
-
-    protected String getStringContent(File toRead) throws IOException {
-        return new String(Files.readAllBytes(Paths.get(toRead.getAbsolutePath())));
-    }
-
     protected List<String> getInheritDeclarations(String content) throws
             IOException, SAXException, ParserConfigurationException {
         return getTagAttributes(content, "inherits", "name");
@@ -404,79 +495,4 @@ public class InheritanceMojo extends AbstractMojo {
             }
         }
     }
-
-    /**
-     * Retrieve a <code>Map</code> with the <b>GWT-modules</b> inherited through <b>Maven</b> dependencies
-     * @return
-     */
-    protected Map<JarEntry, Artifact> getMavenInheritedGwtModuleArtifactMap() throws MojoExecutionException {
-        Map<JarEntry, Artifact> toReturn = new LinkedHashMap<>();
-        DependencyNode dependencyNode = getDependencyNode(session, dependencyGraphBuilder, project);
-        try {
-            recursivelyReadDependencyNode(toReturn, dependencyNode);
-        } catch (Exception e) {
-            throw new MojoExecutionException("Failed to build GwtModuleArtifactMap ", e);
-        }
-        return toReturn;
-    }
-
-    protected void recursivelyReadDependencyNode(Map<JarEntry, Artifact> toPopulate, DependencyNode toRead) throws
-            IOException {
-        populateGwtModuleArtifactMap(toPopulate, toRead.getArtifact());
-        for (DependencyNode dependencyNode : toRead.getChildren()) {
-            recursivelyReadDependencyNode(toPopulate, dependencyNode);
-        }
-    }
-
-    /**
-     * Populate a <code>Map</code> with all the <b>GWT-modules</b> found in the given <code>Artifact</code>
-     * @param toPopulate
-     * @param toRead
-     * @throws IOException
-     */
-    protected void populateGwtModuleArtifactMap(Map<JarEntry, Artifact> toPopulate, Artifact toRead) throws IOException {
-        File file = toRead.getFile();
-        if (file != null && file.getName().endsWith(".jar")) {
-            // optimized solution for the jar case
-            JarFile jarFile = new JarFile(file);
-            try {
-                Enumeration<JarEntry> jarEntries = jarFile.entries();
-                while (jarEntries.hasMoreElements()) {
-                    final JarEntry jarEntry = jarEntries.nextElement();
-                    String entryName = jarEntry.getName();
-                    if (entryName.endsWith(".gwt.xml")) {
-                        toPopulate.put(jarEntry, toRead);
-                    }
-                }
-            } finally {
-                try {
-                    jarFile.close();
-                } catch (IOException ignore) {
-                    // ignore
-                }
-            }
-        }
-    }
-
-    /**
-     * Retrieve the <code>DependencyNode</code> of the given <code>MavenProject</code>
-     * @param session
-     * @param dependencyGraphBuilder
-     * @param project
-     * @return
-     * @throws MojoExecutionException
-     */
-    protected DependencyNode getDependencyNode(MavenSession session, DependencyGraphBuilder
-            dependencyGraphBuilder, MavenProject project) throws MojoExecutionException {
-        try {
-            ProjectBuildingRequest buildingRequest =
-                    new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
-            buildingRequest.setProject(project);
-            // non-verbose mode use dependency graph component, which gives consistent results with Maven version
-            // running
-            return dependencyGraphBuilder.buildDependencyGraph(buildingRequest, null);
-        } catch (DependencyGraphBuilderException exception) {
-            throw new MojoExecutionException("Cannot build project dependency graph", exception);
-        }
-    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Index of the <b>GWT-modules</b> inherited through <b>Maven</b> dependencies, with the artifacts that provide them.
+ * Modules are identified by their position, in insertion order.
+ */
+public interface GwtModuleIndex {
+
+    /**
+     * Add a <b>GWT-module</b> to the index
+     * @param entryName the name of the <code>JarEntry</code> of the module descriptor (e.g. <b>org/kie/Foo.gwt.xml</b>)
+     * @param artifact the <code>Artifact</code> that provides it
+     */
+    void put(String entryName, Artifact artifact);
+
+    /**
+     * @return the number of indexed <b>GWT-modules</b>
+     */
+    int size();
+
+    /**
+     * @param index
+     * @return the name of the <code>JarEntry</code> of the module descriptor at the given position
+     */
+    String getEntryName(int index);
+
+    /**
+     * @param index
+     * @return the file of the <code>Artifact</code> that provides the module at the given position
+     */
+    File getArtifactFile(int index);
+
+    /**
+     * Retrieve the coordinates (<b>groupId:artifactId:version</b>) of the <code>Artifact</code> that provides
+     * the first module whose name ends with the given inherit declaration
+     * @param inheritDeclaration
+     * @return
+     */
+    Optional<String> getArtifactInfo(String inheritDeclaration);
+
+    /**
+     * Add an inheritance edge between two <b>GWT-modules</b>
+     * @param inheritedModule the name of the inherited module, as declared
+     * @param inheritingModule the name of the module that declares the inherit
+     */
+    void putInheritance(String inheritedModule, String inheritingModule);
+
+    /**
+     * @param moduleName
+     * @return the names of the modules that directly inherit the given one
+     */
+    Set<String> getInheritingModules(String moduleName);
+
+    /**
+     * Add a path owned by the given <b>GWT-module</b>
+     * @param moduleName
+     * @param ownedPath the '/'-separated path (e.g. descriptor, <code>source</code> or <code>public</code> path)
+     * relative to the root of the module, or an empty one for the whole root
+     */
+    void putOwnedPath(String moduleName, String ownedPath);
+
+    /**
+     * @param moduleName
+     * @return <code>true</code> if any path has been added for the given module, <code>false</code> otherwise
+     */
+    boolean hasOwnedPaths(String moduleName);
+
+    /**
+     * @param relativePath a '/'-separated path, relative to its root
+     * @return the names of the modules that own the given path or one of its parents
+     */
+    Set<String> getOwningModules(String relativePath);
+
+    static String getModuleName(String entryName) {
+        return entryName.replace(".gwt.xml", "").replace("/", ".");
+    }
+
+    static String toArtifactInfo(Artifact artifact) {
+        StringBuilder toReturn = new StringBuilder();
+        toReturn.append(artifact.getGroupId());
+        toReturn.append(":");
+        toReturn.append(artifact.getArtifactId());
+        toReturn.append(":");
+        toReturn.append(artifact.getVersion());
+        return toReturn.toString();
+    }
+
+    /**
+     * @param relativePath a '/'-separated path
+     * @return the given path and all its parents, starting from the empty (root) one
+     */
+    static List<String> getPathWithParents(String relativePath) {
+        List<String> toReturn = new ArrayList<>();
+        toReturn.add("");
+        for (int index = relativePath.indexOf('/'); index > 0; index = relativePath.indexOf('/', index + 1)) {
+            toReturn.add(relativePath.substring(0, index));
+        }
+        if (!relativePath.isEmpty()) {
+            toReturn.add(relativePath);
+        }
+        return toReturn;
+    }
+}
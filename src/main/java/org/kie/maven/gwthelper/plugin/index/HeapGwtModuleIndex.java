@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * <code>GwtModuleIndex</code> that keeps entry names and <code>Artifact</code> references on heap
+ */
+public class HeapGwtModuleIndex implements GwtModuleIndex {
+
+    private final List<String> entryNames = new ArrayList<>();
+    private final List<Artifact> artifacts = new ArrayList<>();
+    private final Map<String, Set<String>> inheritingModulesMap = new HashMap<>();
+    private final Map<String, Set<String>> owningModulesMap = new HashMap<>();
+    private final Set<String> owningModules = new HashSet<>();
+
+    @Override
+    public void put(String entryName, Artifact artifact) {
+        entryNames.add(entryName);
+        artifacts.add(artifact);
+    }
+
+    @Override
+    public int size() {
+        return entryNames.size();
+    }
+
+    @Override
+    public String getEntryName(int index) {
+        return entryNames.get(index);
+    }
+
+    @Override
+    public File getArtifactFile(int index) {
+        return artifacts.get(index).getFile();
+    }
+
+    @Override
+    public Optional<String> getArtifactInfo(String inheritDeclaration) {
+        return IntStream.range(0, entryNames.size())
+                .filter(index -> GwtModuleIndex.getModuleName(entryNames.get(index)).endsWith(inheritDeclaration))
+                .boxed()
+                .findFirst()
+                .map(index -> GwtModuleIndex.toArtifactInfo(artifacts.get(index)));
+    }
+
+    @Override
+    public void putInheritance(String inheritedModule, String inheritingModule) {
+        inheritingModulesMap.computeIfAbsent(inheritedModule, key -> new LinkedHashSet<>()).add(inheritingModule);
+    }
+
+    @Override
+    public Set<String> getInheritingModules(String moduleName) {
+        return inheritingModulesMap.getOrDefault(moduleName, Collections.emptySet());
+    }
+
+    @Override
+    public void putOwnedPath(String moduleName, String ownedPath) {
+        owningModulesMap.computeIfAbsent(ownedPath, key -> new LinkedHashSet<>()).add(moduleName);
+        owningModules.add(moduleName);
+    }
+
+    @Override
+    public boolean hasOwnedPaths(String moduleName) {
+        return owningModules.contains(moduleName);
+    }
+
+    @Override
+    public Set<String> getOwningModules(String relativePath) {
+        Set<String> toReturn = new TreeSet<>();
+        for (String ownedPath : GwtModuleIndex.getPathWithParents(relativePath)) {
+            toReturn.addAll(owningModulesMap.getOrDefault(ownedPath, Collections.emptySet()));
+        }
+        return toReturn;
+    }
+}
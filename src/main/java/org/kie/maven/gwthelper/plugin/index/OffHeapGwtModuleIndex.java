@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.index;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * <code>GwtModuleIndex</code> that keeps no <code>JarEntry</code> or <code>Artifact</code> reference: each module is a
+ * fixed-size record, inside a direct (off-heap) <code>ByteBuffer</code>, of ids of a <code>StringDictionary</code>
+ * (package, simple name, artifact coordinates and artifact file) plus the next module in its bucket.
+ * Inheritance and owned path edges are kept, reversed, in another direct buffer, as linked lists of dictionary ids
+ * whose heads are stored, per dictionary id, in a third one.
+ * <p>
+ * Memory grows linearly with the number of indexed modules (20 bytes each), of edges (8 bytes each) and the size of
+ * the distinct strings (plus 12 bytes each), instead of one <code>JarEntry</code> (with its full name) per module and
+ * one <code>HashSet</code> per edge list. The on-heap part is a fixed-size directory of buckets, keyed by the last 8
+ * characters of the module name, used to look up the modules whose name ends with a given inherit declaration, and
+ * the dictionary table.
+ */
+public class OffHeapGwtModuleIndex implements GwtModuleIndex {
+
+    private final static String GWT_XML = ".gwt.xml";
+    private final static int KEY_LENGTH = 8;
+    private final static int BUCKETS = 1 << 12;
+    private final static int INITIAL_CAPACITY = 1 << 16;
+    // packageId, nameId, coordinatesId, fileId, next
+    private final static int PACKAGE = 0;
+    private final static int NAME = Integer.BYTES;
+    private final static int COORDINATES = 2 * Integer.BYTES;
+    private final static int FILE = 3 * Integer.BYTES;
+    private final static int NEXT = 4 * Integer.BYTES;
+    private final static int MODULE_RECORD_SIZE = 5 * Integer.BYTES;
+    private final static int NONE = -1;
+    // head of inheriting modules, head of owning modules, owner flag (heads are edge index + 1, 0 for none)
+    private final static int INHERITING = 0;
+    private final static int OWNING = Integer.BYTES;
+    private final static int OWNER = 2 * Integer.BYTES;
+    private final static int HEAD_RECORD_SIZE = 3 * Integer.BYTES;
+    // value id, next edge index + 1
+    private final static int EDGE_RECORD_SIZE = 2 * Integer.BYTES;
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private final int[] buckets = new int[BUCKETS];
+    private int shortNamesHead = NONE;
+
+    private ByteBuffer modules = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    private int moduleCount;
+    private ByteBuffer heads = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    private ByteBuffer edges = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+
+    public OffHeapGwtModuleIndex() {
+        Arrays.fill(buckets, NONE);
+    }
+
+    @Override
+    public void put(String entryName, Artifact artifact) {
+        int packageId = NONE;
+        int nameId;
+        int suffixIndex = entryName.indexOf(GWT_XML);
+        if (suffixIndex >= 0 && suffixIndex == entryName.length() - GWT_XML.length()) {
+            int slashIndex = entryName.lastIndexOf('/');
+            if (slashIndex >= 0) {
+                packageId = dictionary.intern(entryName.substring(0, slashIndex));
+            }
+            nameId = dictionary.intern(entryName.substring(slashIndex + 1, suffixIndex));
+        } else {
+            // irregular name, kept as is and matched on its decoded module name
+            nameId = -dictionary.intern(entryName) - 1;
+        }
+        int coordinatesId = dictionary.intern(GwtModuleIndex.toArtifactInfo(artifact));
+        int fileId = dictionary.intern(artifact.getFile() != null ? artifact.getFile().getAbsolutePath() : "");
+        int bucket = getBucket(GwtModuleIndex.getModuleName(entryName));
+        modules = StringDictionary.ensureCapacity(modules, MODULE_RECORD_SIZE);
+        modules.putInt(packageId);
+        modules.putInt(nameId);
+        modules.putInt(coordinatesId);
+        modules.putInt(fileId);
+        if (bucket == NONE) {
+            modules.putInt(shortNamesHead);
+            shortNamesHead = moduleCount;
+        } else {
+            modules.putInt(buckets[bucket]);
+            buckets[bucket] = moduleCount;
+        }
+        moduleCount++;
+    }
+
+    @Override
+    public int size() {
+        return moduleCount;
+    }
+
+    @Override
+    public String getEntryName(int index) {
+        checkIndex(index);
+        int nameId = getField(index, NAME);
+        if (nameId < 0) {
+            return dictionary.get(-nameId - 1);
+        }
+        int packageId = getField(index, PACKAGE);
+        String name = dictionary.get(nameId) + GWT_XML;
+        return packageId == NONE ? name : dictionary.get(packageId) + "/" + name;
+    }
+
+    @Override
+    public File getArtifactFile(int index) {
+        checkIndex(index);
+        String path = dictionary.get(getField(index, FILE));
+        return path.isEmpty() ? null : new File(path);
+    }
+
+    @Override
+    public Optional<String> getArtifactInfo(String inheritDeclaration) {
+        byte[] toMatch = inheritDeclaration.getBytes(StandardCharsets.UTF_8);
+        int found = NONE;
+        int bucket = getBucket(inheritDeclaration);
+        if (bucket == NONE) {
+            // too short to be bucketed: any module may match
+            for (int index = 0; index < moduleCount && found == NONE; index++) {
+                if (matches(index, inheritDeclaration, toMatch)) {
+                    found = index;
+                }
+            }
+        } else {
+            // chains go from the last inserted module backward, the last match is the first inserted one
+            for (int index = buckets[bucket]; index != NONE; index = getField(index, NEXT)) {
+                if (matches(index, inheritDeclaration, toMatch)) {
+                    found = index;
+                }
+            }
+        }
+        if (found == NONE) {
+            return Optional.empty();
+        }
+        return Optional.of(dictionary.get(getField(found, COORDINATES)));
+    }
+
+    @Override
+    public void putInheritance(String inheritedModule, String inheritingModule) {
+        putEdge(dictionary.intern(inheritedModule), INHERITING, dictionary.intern(inheritingModule));
+    }
+
+    @Override
+    public Set<String> getInheritingModules(String moduleName) {
+        Set<String> toReturn = new LinkedHashSet<>();
+        addEdgeValues(dictionary.find(moduleName), INHERITING, toReturn);
+        return toReturn;
+    }
+
+    @Override
+    public void putOwnedPath(String moduleName, String ownedPath) {
+        int moduleId = dictionary.intern(moduleName);
+        putEdge(dictionary.intern(ownedPath), OWNING, moduleId);
+        ensureHeads(moduleId);
+        heads.putInt(moduleId * HEAD_RECORD_SIZE + OWNER, 1);
+    }
+
+    @Override
+    public boolean hasOwnedPaths(String moduleName) {
+        return getHead(dictionary.find(moduleName), OWNER) != 0;
+    }
+
+    @Override
+    public Set<String> getOwningModules(String relativePath) {
+        Set<String> toReturn = new TreeSet<>();
+        for (String ownedPath : GwtModuleIndex.getPathWithParents(relativePath)) {
+            addEdgeValues(dictionary.find(ownedPath), OWNING, toReturn);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Check, without decoding it, if the name of the module at the given position (i.e. <b>package</b>, with '/'
+     * as '.', + '.' + <b>simple name</b>) ends with the given inherit declaration
+     * @param index
+     * @param inheritDeclaration
+     * @param toMatch the <b>UTF-8</b> bytes of <b>inheritDeclaration</b>
+     * @return
+     */
+    private boolean matches(int index, String inheritDeclaration, byte[] toMatch) {
+        int nameId = getField(index, NAME);
+        if (nameId < 0) {
+            return GwtModuleIndex.getModuleName(dictionary.get(-nameId - 1)).endsWith(inheritDeclaration);
+        }
+        int end = dictionary.matchSuffix(nameId, toMatch, toMatch.length, false);
+        if (end <= 0) {
+            return end == 0;
+        }
+        int packageId = getField(index, PACKAGE);
+        if (packageId == NONE || toMatch[end - 1] != '.') {
+            return false;
+        }
+        return dictionary.matchSuffix(packageId, toMatch, end - 1, true) == 0;
+    }
+
+    private void putEdge(int keyId, int head, int valueId) {
+        ensureHeads(keyId);
+        int headPosition = keyId * HEAD_RECORD_SIZE + head;
+        edges = StringDictionary.ensureCapacity(edges, EDGE_RECORD_SIZE);
+        int edgeIndex = edges.position() / EDGE_RECORD_SIZE;
+        edges.putInt(valueId);
+        edges.putInt(heads.getInt(headPosition));
+        heads.putInt(headPosition, edgeIndex + 1);
+    }
+
+    private void addEdgeValues(int keyId, int head, Set<String> toPopulate) {
+        for (int edge = getHead(keyId, head); edge != 0; edge = edges.getInt((edge - 1) * EDGE_RECORD_SIZE + Integer.BYTES)) {
+            toPopulate.add(dictionary.get(edges.getInt((edge - 1) * EDGE_RECORD_SIZE)));
+        }
+    }
+
+    /**
+     * @param id
+     * @param head
+     * @return the given head of the given dictionary id, or <code>0</code> if not set
+     */
+    private int getHead(int id, int head) {
+        if (id < 0 || id * HEAD_RECORD_SIZE >= heads.position()) {
+            return 0;
+        }
+        return heads.getInt(id * HEAD_RECORD_SIZE + head);
+    }
+
+    /**
+     * Make room for the heads of the given dictionary id, new (zeroed) heads meaning no edge
+     * @param id
+     */
+    private void ensureHeads(int id) {
+        int required = (id + 1) * HEAD_RECORD_SIZE - heads.position();
+        if (required > 0) {
+            heads = StringDictionary.ensureCapacity(heads, required);
+            heads.position(heads.position() + required);
+        }
+    }
+
+    private int getField(int index, int field) {
+        return modules.getInt(index * MODULE_RECORD_SIZE + field);
+    }
+
+    /**
+     * @param name
+     * @return the bucket of the given name, or <code>NONE</code> if it is shorter than <code>KEY_LENGTH</code>
+     */
+    private int getBucket(String name) {
+        if (name.length() < KEY_LENGTH) {
+            return NONE;
+        }
+        return name.substring(name.length() - KEY_LENGTH).hashCode() & (BUCKETS - 1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= moduleCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + moduleCount);
+        }
+    }
+}
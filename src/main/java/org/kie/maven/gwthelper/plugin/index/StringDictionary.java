@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dictionary of interned strings: each distinct string is stored once, as <b>UTF-8</b> bytes, inside a direct
+ * (off-heap) <code>ByteBuffer</code> and identified by an <code>int</code> id.
+ * The only on-heap structure is the open addressing table used to intern strings, with one <code>int</code> slot
+ * per (at most) half a distinct string.
+ */
+class StringDictionary {
+
+    final static int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private final static int INITIAL_CAPACITY = 1 << 16;
+    private final static int INITIAL_TABLE_SIZE = 1 << 10;
+    // offset, length, hash
+    private final static int ENTRY_SIZE = 3 * Integer.BYTES;
+
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    private ByteBuffer entries = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    // id + 1 of the string in each slot, 0 for empty slots
+    private int[] table = new int[INITIAL_TABLE_SIZE];
+    private int size;
+
+    /**
+     * @param toIntern
+     * @return the id of the given <code>String</code>, adding it to the dictionary if not already present
+     */
+    int intern(String toIntern) {
+        byte[] encoded = toIntern.getBytes(StandardCharsets.UTF_8);
+        int hash = toIntern.hashCode();
+        int slot = getSlot(encoded, hash);
+        int id = table[slot] - 1;
+        if (id < 0) {
+            id = add(encoded, hash);
+            table[slot] = id + 1;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @param toFind
+     * @return the id of the given <code>String</code>, or <code>-1</code> if it is not in the dictionary
+     */
+    int find(String toFind) {
+        return table[getSlot(toFind.getBytes(StandardCharsets.UTF_8), toFind.hashCode())] - 1;
+    }
+
+    /**
+     * @return the number of strings in the dictionary
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param id
+     * @return the <code>String</code> with the given id
+     */
+    String get(int id) {
+        ByteBuffer toRead = bytes.duplicate();
+        toRead.position(getOffset(id));
+        byte[] toReturn = new byte[getLength(id)];
+        toRead.get(toReturn);
+        return new String(toReturn, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare, in place, the <b>UTF-8</b> bytes of the string with the given id against the ones of <b>toMatch</b>
+     * that precede <b>end</b>, starting from the last ones
+     * @param id
+     * @param toMatch
+     * @param end
+     * @param slashAsDot whether '/' bytes of the string have to be compared as '.'
+     * @return the position of <b>toMatch</b> preceding the matched bytes, or <code>-1</code> if they do not match
+     */
+    int matchSuffix(int id, byte[] toMatch, int end, boolean slashAsDot) {
+        int offset = getOffset(id);
+        int length = getLength(id);
+        int count = Math.min(length, end);
+        for (int i = 1; i <= count; i++) {
+            byte current = bytes.get(offset + length - i);
+            if (slashAsDot && current == '/') {
+                current = '.';
+            }
+            if (current != toMatch[end - i]) {
+                return -1;
+            }
+        }
+        return end - count;
+    }
+
+    /**
+     * Return the given buffer, or a copy of it with (at least) doubled capacity if it cannot hold the given number of
+     * bytes more
+     * @param toCheck
+     * @param required
+     * @return
+     * @throws IllegalStateException if the required capacity exceeds <code>MAX_CAPACITY</code>
+     */
+    static ByteBuffer ensureCapacity(ByteBuffer toCheck, int required) {
+        if (toCheck.remaining() >= required) {
+            return toCheck;
+        }
+        long needed = (long) toCheck.position() + required;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("Required capacity " + needed + " exceeds the maximum buffer capacity of " + MAX_CAPACITY + " bytes");
+        }
+        long capacity = toCheck.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        ByteBuffer toReturn = ByteBuffer.allocateDirect((int) Math.min(capacity, MAX_CAPACITY));
+        toCheck.flip();
+        toReturn.put(toCheck);
+        return toReturn;
+    }
+
+    private int add(byte[] encoded, int hash) {
+        bytes = ensureCapacity(bytes, encoded.length);
+        entries = ensureCapacity(entries, ENTRY_SIZE);
+        entries.putInt(bytes.position());
+        entries.putInt(encoded.length);
+        entries.putInt(hash);
+        bytes.put(encoded);
+        return size++;
+    }
+
+    /**
+     * @param encoded
+     * @param hash
+     * @return the slot of the table holding the given string, or the empty one where it has to be put
+     */
+    private int getSlot(byte[] encoded, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0 && (getHash(table[slot] - 1) != hash || !isEqual(table[slot] - 1, encoded))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        int[] rehashed = new int[table.length * 2];
+        int mask = rehashed.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = getHash(id) & mask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed[slot] = id + 1;
+        }
+        table = rehashed;
+    }
+
+    private boolean isEqual(int id, byte[] encoded) {
+        return getLength(id) == encoded.length && matchSuffix(id, encoded, encoded.length, false) == 0;
+    }
+
+    private int getOffset(int id) {
+        return entries.getInt(id * ENTRY_SIZE);
+    }
+
+    private int getLength(int id) {
+        return entries.getInt(id * ENTRY_SIZE + Integer.BYTES);
+    }
+
+    private int getHash(int id) {
+        return entries.getInt(id * ENTRY_SIZE + 2 * Integer.BYTES);
+    }
+}
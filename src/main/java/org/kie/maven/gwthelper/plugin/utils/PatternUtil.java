@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.utils;
+
+import java.util.Arrays;
+
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Class used to provide <b>includes/excludes</b> matching methods
+ */
+public class PatternUtil {
+
+    /**
+     * Method to check if the given String matches the <b>includes/excludes</b> patterns
+     * @param toCheck
+     * @param includes
+     * @param excludes
+     * @return <code>true</code> if <b>toCheck</b> contains one of the <b>includes</b> patterns or, if not provided,
+     * none of the <b>excludes</b> ones; <code>false</code> otherwise
+     */
+    public static boolean isSelected(String toCheck, String includes, String excludes) {
+        if (StringUtils.isNotEmpty(includes)) {
+            return matchPattern(toCheck, includes);
+        } else if (StringUtils.isNotEmpty(excludes)) {
+            return !matchPattern(toCheck, excludes);
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Method to check if the given String contains one of the comma-separated pattern.
+     * Matching is done with String.contains()
+     * @param toCheck
+     * @param pattern
+     * @return <code>true</code> if the <b>toCheck</b> String contains the <b>pattern</b> one, <code>false</code> otherwise
+     */
+    public static boolean matchPattern(String toCheck, String pattern) {
+        return Arrays.stream(pattern.split(",")).anyMatch(toCheck::contains);
+    }
+}
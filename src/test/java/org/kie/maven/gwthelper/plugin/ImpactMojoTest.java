@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.maven.gwthelper.plugin.index.GwtModuleIndex;
+import org.kie.maven.gwthelper.plugin.index.HeapGwtModuleIndex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImpactMojoTest {
+
+    private final static String MODULE = "<module><inherits name=\"org.kie.Core\"/><entry-point class=\"org.kie.client.App\"/></module>";
+
+    private ImpactMojo impactMojo;
+    private GwtModuleIndex gwtModuleIndex;
+    private Set<String> entryModules;
+    private Set<String> rebuildAllReasons;
+    private Path workDir;
+    private Path baseDir;
+    private List<Path> sourceRoots;
+    private File jarFile;
+
+    @Before
+    public void setup() {
+        workDir = new File("work").toPath().toAbsolutePath().normalize();
+        baseDir = workDir.resolve("project");
+        MavenProject project = new MavenProject();
+        project.setFile(baseDir.resolve("pom.xml").toFile());
+        impactMojo = new ImpactMojo();
+        impactMojo.project = project;
+        gwtModuleIndex = new HeapGwtModuleIndex();
+        entryModules = new HashSet<>();
+        rebuildAllReasons = new LinkedHashSet<>();
+        sourceRoots = Arrays.asList(baseDir.resolve("src/main/java"), baseDir.resolve("src/main/resources"));
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        if (jarFile != null) {
+            Files.deleteIfExists(jarFile.toPath());
+        }
+    }
+
+    @Test
+    public void readGwtModuleDefaultPaths() throws Exception {
+        impactMojo.readGwtModule("org.kie.App", "org/kie/App.gwt.xml", MODULE, gwtModuleIndex, entryModules);
+        assertEquals(Collections.singleton("org.kie.App"), entryModules);
+        assertEquals(Collections.singleton("org.kie.App"), gwtModuleIndex.getInheritingModules("org.kie.Core"));
+        assertOwners("org/kie/App.gwt.xml", "org.kie.App");
+        assertOwners("org/kie/client/view/View.java", "org.kie.App");
+        assertOwners("org/kie/public/css/style.css", "org.kie.App");
+        assertOwners("org/kie/server/Service.java");
+        assertOwners("org/kie/clientx/View.java");
+    }
+
+    @Test
+    public void readGwtModuleSuperSource() throws Exception {
+        String content = "<module><source path=\"shared\"/><super-source path=\"jre\"/><public path=\"\"/></module>";
+        impactMojo.readGwtModule("org.kie.Core", "org/kie/Core.gwt.xml", content, gwtModuleIndex, entryModules);
+        assertTrue(entryModules.isEmpty());
+        assertOwners("org/kie/jre/java/util/List.java", "org.kie.Core");
+        assertOwners("org/kie/shared/Model.java", "org.kie.Core");
+        assertOwners("org/kie/server/Service.java", "org.kie.Core");
+        assertOwners("org/other/client/View.java");
+    }
+
+    @Test
+    public void readGwtModuleRootPackage() throws Exception {
+        impactMojo.readGwtModule("Root", "Root.gwt.xml", "<module/>", gwtModuleIndex, entryModules);
+        assertTrue(gwtModuleIndex.hasOwnedPaths("Root"));
+        assertOwners("Root.gwt.xml", "Root");
+        assertOwners("client/View.java", "Root");
+        assertOwners("public/style.css", "Root");
+        assertOwners("org/kie/client/View.java");
+    }
+
+    @Test
+    public void readGwtModuleCompilerClasses() throws Exception {
+        String content = "<module>" +
+                "<generate-with class=\"org.kie.rebind.Generator\"><when-type-assignable class=\"org.kie.client.Foo\"/></generate-with>" +
+                "<replace-with class=\"org.kie.impl.Impl$Nested\"><when-type-is class=\"org.kie.client.Bar\"/></replace-with>" +
+                "<define-linker name=\"kie\" class=\"org.kie.linker.Linker.Nested\"/>" +
+                "</module>";
+        impactMojo.readGwtModule("org.kie.Core", "org/kie/Core.gwt.xml", content, gwtModuleIndex, entryModules);
+        assertOwners("org/kie/rebind/Generator.java", "org.kie.Core");
+        assertOwners("org/kie/impl/Impl.java", "org.kie.Core");
+        assertOwners("org/kie/linker/Linker.java", "org.kie.Core");
+        assertOwners("org/kie/rebind/Other.java");
+    }
+
+    @Test
+    public void getAffectedGwtModulesTransitively() {
+        gwtModuleIndex.putInheritance("org.kie.Core", "org.kie.Widgets");
+        gwtModuleIndex.putInheritance("org.kie.Widgets", "org.kie.App");
+        gwtModuleIndex.putInheritance("org.kie.Widgets", "org.kie.Other");
+        gwtModuleIndex.putInheritance("org.kie.App", "org.kie.Widgets");
+        gwtModuleIndex.putInheritance("org.kie.Unrelated", "org.kie.Standalone");
+        assertEquals(new HashSet<>(Arrays.asList("org.kie.Core", "org.kie.Widgets", "org.kie.App", "org.kie.Other")),
+                     impactMojo.getAffectedGwtModules(Collections.singleton("org.kie.Core"), gwtModuleIndex));
+        assertEquals(new HashSet<>(Arrays.asList("org.kie.App", "org.kie.Widgets", "org.kie.Other")),
+                     impactMojo.getAffectedGwtModules(Collections.singleton("org.kie.App"), gwtModuleIndex));
+        assertEquals(Collections.singleton("org.kie.Missing"),
+                     impactMojo.getAffectedGwtModules(Collections.singleton("org.kie.Missing"), gwtModuleIndex));
+    }
+
+    @Test
+    public void getOwningGwtModules() throws Exception {
+        impactMojo.readGwtModule("org.kie.App", "org/kie/App.gwt.xml", MODULE, gwtModuleIndex, entryModules);
+        assertEquals(Collections.singleton("org.kie.App"), getOwningGwtModules("project/src/main/java/org/kie/client/View.java"));
+        assertEquals(Collections.singleton("org.kie.App"), getOwningGwtModules("project/src/main/resources/org/kie/App.gwt.xml"));
+        // outside source roots, e.g. a dependency read from its jar
+        assertEquals(Collections.singleton("org.kie.App"), getOwningGwtModules("core/src/main/resources/org/kie/public/style.css"));
+        assertTrue(getOwningGwtModules("project/src/main/java/org/kie/server/Service.java").isEmpty());
+        assertTrue(getOwningGwtModules("project/src/test/java/org/kie/client/ViewTest.java").isEmpty());
+        assertTrue(getOwningGwtModules("other/README.md").isEmpty());
+        assertTrue(rebuildAllReasons.isEmpty());
+    }
+
+    @Test
+    public void getOwningGwtModulesDeletedDescriptor() {
+        gwtModuleIndex.putInheritance("org.kie.Deleted", "org.kie.App");
+        Set<String> changedModules = getOwningGwtModules("project/src/main/resources/org/kie/Deleted.gwt.xml");
+        assertEquals(Collections.singleton("org.kie.Deleted"), changedModules);
+        assertTrue(impactMojo.getAffectedGwtModules(changedModules, gwtModuleIndex).contains("org.kie.App"));
+        assertEquals(Collections.singleton("org.kie.Removed"), getOwningGwtModules("core/src/main/resources/org/kie/Removed.gwt.xml"));
+        assertTrue(rebuildAllReasons.isEmpty());
+    }
+
+    @Test
+    public void rebuildAllOnProjectPom() {
+        assertTrue(getOwningGwtModules("project/pom.xml").isEmpty());
+        assertEquals(1, rebuildAllReasons.size());
+    }
+
+    @Test
+    public void rebuildAllOnParentPom() {
+        assertTrue(getOwningGwtModules("pom.xml").isEmpty());
+        assertEquals(1, rebuildAllReasons.size());
+        assertTrue(rebuildAllReasons.iterator().next().startsWith("parent "));
+    }
+
+    @Test
+    public void rebuildAllOnUnreadableDescriptor() throws Exception {
+        jarFile = Files.createTempFile("impact", ".jar").toFile();
+        try (JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile))) {
+            jarOutputStream.putNextEntry(new JarEntry("org/kie/Core.gwt.xml"));
+            jarOutputStream.write(MODULE.getBytes(StandardCharsets.UTF_8));
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry("org/kie/Broken.gwt.xml"));
+            jarOutputStream.write("<module>".getBytes(StandardCharsets.UTF_8));
+            jarOutputStream.closeEntry();
+        }
+        gwtModuleIndex.put("org/kie/Core.gwt.xml", getArtifact("core", jarFile));
+        gwtModuleIndex.put("org/kie/Broken.gwt.xml", getArtifact("core", jarFile));
+        gwtModuleIndex.put("org/kie/Missing.gwt.xml", getArtifact("missing", workDir.resolve("missing.jar").toFile()));
+        impactMojo.readIndexedGwtModules(gwtModuleIndex, rebuildAllReasons);
+        assertTrue(gwtModuleIndex.hasOwnedPaths("org.kie.Core"));
+        assertEquals(2, rebuildAllReasons.size());
+        assertTrue(rebuildAllReasons.stream().anyMatch(reason -> reason.contains("org/kie/Broken.gwt.xml")));
+        assertTrue(rebuildAllReasons.stream().anyMatch(reason -> reason.contains("org/kie/Missing.gwt.xml")));
+    }
+
+    private Set<String> getOwningGwtModules(String changedPath) {
+        return impactMojo.getOwningGwtModules(workDir.resolve(changedPath), sourceRoots, gwtModuleIndex, rebuildAllReasons);
+    }
+
+    private void assertOwners(String relativePath, String... expected) {
+        assertEquals(relativePath, new TreeSet<>(Arrays.asList(expected)), gwtModuleIndex.getOwningModules(relativePath));
+    }
+
+    private Artifact getArtifact(String artifactId, File file) {
+        Artifact toReturn = new DefaultArtifact("org.kie", artifactId, "1.0", "compile", "jar", null, new DefaultArtifactHandler("jar"));
+        toReturn.setFile(file);
+        return toReturn;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.maven.gwthelper.plugin.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Check that <code>OffHeapGwtModuleIndex</code> behaves as <code>HeapGwtModuleIndex</code>
+ */
+public class OffHeapGwtModuleIndexTest {
+
+    private HeapGwtModuleIndex heapIndex;
+    private OffHeapGwtModuleIndex offHeapIndex;
+
+    @Before
+    public void setup() {
+        heapIndex = new HeapGwtModuleIndex();
+        offHeapIndex = new OffHeapGwtModuleIndex();
+    }
+
+    @Test
+    public void firstInsertedWinsAcrossArtifacts() {
+        Artifact first = getArtifact("first");
+        Artifact second = getArtifact("second");
+        put("org/kie/client/Widgets.gwt.xml", first);
+        put("org/other/client/Widgets.gwt.xml", second);
+        put("org/kie/client/Widgets.gwt.xml", second);
+        assertSameIndexes("org.kie.client.Widgets", "client.Widgets", "Widgets", "ets");
+        assertEquals(Optional.of("org.kie:first:1.0"), offHeapIndex.getArtifactInfo("client.Widgets"));
+        assertEquals(Optional.of("org.kie:second:1.0"), offHeapIndex.getArtifactInfo("org.other.client.Widgets"));
+    }
+
+    @Test
+    public void shortDeclarations() {
+        Artifact artifact = getArtifact("short");
+        put("Foo.gwt.xml", artifact);
+        put("a/B.gwt.xml", artifact);
+        put("/Root.gwt.xml", artifact);
+        put("org/kie/Core.gwt.xml", artifact);
+        assertSameIndexes("", "B", "a.B", ".B", "Foo", "oo", ".Root", "Root", "Core", "e.Core", "Missing");
+    }
+
+    @Test
+    public void bucketCollisions() {
+        Artifact artifact = getArtifact("collisions");
+        // same last KEY_LENGTH characters, hence same bucket
+        put("org/a/common/Commons.gwt.xml", artifact);
+        put("org/b/common/Commons.gwt.xml", getArtifact("other"));
+        put("org/c/xcommon/Commons.gwt.xml", artifact);
+        put("org/d/Common/Commons.gwt.xml", artifact);
+        assertSameIndexes("org.b.common.Commons", "common.Commons", "xcommon.Commons", "n.Commons", "d.Common.Commons", "e.common.Commons");
+    }
+
+    @Test
+    public void irregularEntryNames() {
+        Artifact artifact = getArtifact("irregular");
+        put("org/kie.gwt.xml/Foo.gwt.xml", artifact);
+        put("org/kie/Bar.xml", artifact);
+        put("org/kie/Baz.gwt.xml.gwt.xml", artifact);
+        assertSameIndexes("kie.Foo", "org.kie.Bar.xml", "Baz", "org.kie.Baz");
+    }
+
+    @Test
+    public void growthPastInitialCapacity() {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            artifacts.add(getArtifact("artifact-" + i));
+        }
+        List<String> declarations = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            String packageName = "org/kie/module" + (i % 700) + "/sub" + (i % 13);
+            String name = "Module" + (i % 1000);
+            put(packageName + "/" + name + ".gwt.xml", artifacts.get(i % artifacts.size()));
+            if (i % 50 == 0) {
+                declarations.add(packageName.replace('/', '.') + "." + name);
+                declarations.add("sub" + (i % 13) + "." + name);
+                declarations.add(name);
+            }
+        }
+        assertSameIndexes(declarations.toArray(new String[0]));
+    }
+
+    @Test
+    public void missingArtifactFile() {
+        put("org/kie/NoFile.gwt.xml", new DefaultArtifact("org.kie", "nofile", "1.0", "compile", "jar", null, new DefaultArtifactHandler("jar")));
+        assertSameIndexes("org.kie.NoFile");
+        assertNull(offHeapIndex.getArtifactFile(0));
+        assertFalse(offHeapIndex.getArtifactInfo("org.kie.Other").isPresent());
+    }
+
+    @Test
+    public void inheritanceEdges() {
+        putInheritance("org.kie.Core", "org.kie.Widgets");
+        putInheritance("org.kie.Core", "org.kie.App");
+        putInheritance("org.kie.Widgets", "org.kie.App");
+        putInheritance("org.kie.Core", "org.kie.App");
+        assertSameEdges("org.kie.Core", "org.kie.Widgets", "org.kie.App", "org.kie.Missing", "");
+        assertEquals(new HashSet<>(Arrays.asList("org.kie.Widgets", "org.kie.App")), offHeapIndex.getInheritingModules("org.kie.Core"));
+    }
+
+    @Test
+    public void ownedPathEdges() {
+        putOwnedPath("org.kie.Core", "org/kie/Core.gwt.xml");
+        putOwnedPath("org.kie.Core", "org/kie/client");
+        putOwnedPath("org.kie.Other", "org/kie/client");
+        putOwnedPath("Root", "");
+        putOwnedPath("org.kie.Public", "org/kie/public");
+        assertSameEdges("org.kie.Core", "org.kie.Other", "Root", "org.kie.Public", "org.kie.client");
+        assertSameOwners("org/kie/Core.gwt.xml", "org/kie/client", "org/kie/client/Foo.java", "org/kie/clientx/Foo.java",
+                         "org/kie/public/style.css", "org/kie", "", "other/Foo.java");
+        assertEquals(new TreeSet<>(Arrays.asList("Root", "org.kie.Core", "org.kie.Other")), offHeapIndex.getOwningModules("org/kie/client/Foo.java"));
+        assertEquals(new TreeSet<>(Arrays.asList("Root")), offHeapIndex.getOwningModules("org/kie/clientx/Foo.java"));
+    }
+
+    @Test
+    public void edgesGrowthPastInitialCapacity() {
+        for (int i = 0; i < 20000; i++) {
+            putInheritance("org.kie.Module" + (i % 3000), "org.kie.Inheriting" + i);
+            putOwnedPath("org.kie.Inheriting" + i, "org/kie/inheriting" + (i % 5000) + "/client");
+        }
+        for (int i = 0; i < 3000; i += 37) {
+            assertSameEdges("org.kie.Module" + i, "org.kie.Inheriting" + i);
+            assertSameOwners("org/kie/inheriting" + i + "/client/Foo.java");
+        }
+    }
+
+    private void putInheritance(String inheritedModule, String inheritingModule) {
+        heapIndex.putInheritance(inheritedModule, inheritingModule);
+        offHeapIndex.putInheritance(inheritedModule, inheritingModule);
+    }
+
+    private void putOwnedPath(String moduleName, String ownedPath) {
+        heapIndex.putOwnedPath(moduleName, ownedPath);
+        offHeapIndex.putOwnedPath(moduleName, ownedPath);
+    }
+
+    private void assertSameEdges(String... moduleNames) {
+        for (String moduleName : moduleNames) {
+            assertEquals(moduleName, heapIndex.getInheritingModules(moduleName), offHeapIndex.getInheritingModules(moduleName));
+            assertEquals(moduleName, heapIndex.hasOwnedPaths(moduleName), offHeapIndex.hasOwnedPaths(moduleName));
+        }
+    }
+
+    private void assertSameOwners(String... relativePaths) {
+        for (String relativePath : relativePaths) {
+            assertEquals(relativePath, heapIndex.getOwningModules(relativePath), offHeapIndex.getOwningModules(relativePath));
+        }
+    }
+
+    private void put(String entryName, Artifact artifact) {
+        heapIndex.put(entryName, artifact);
+        offHeapIndex.put(entryName, artifact);
+    }
+
+    private void assertSameIndexes(String... declarations) {
+        assertEquals(heapIndex.size(), offHeapIndex.size());
+        for (int index = 0; index < heapIndex.size(); index++) {
+            assertEquals(heapIndex.getEntryName(index), offHeapIndex.getEntryName(index));
+            assertEquals(heapIndex.getArtifactFile(index), offHeapIndex.getArtifactFile(index));
+        }
+        for (String declaration : Arrays.asList(declarations)) {
+            assertEquals(declaration, heapIndex.getArtifactInfo(declaration), offHeapIndex.getArtifactInfo(declaration));
+        }
+    }
+
+    private Artifact getArtifact(String artifactId) {
+        Artifact toReturn = new DefaultArtifact("org.kie", artifactId, "1.0", "compile", "jar", null, new DefaultArtifactHandler("jar"));
+        toReturn.setFile(new File("/repository/" + artifactId + "-1.0.jar").getAbsoluteFile());
+        return toReturn;
+    }
+}